@@ -0,0 +1,539 @@
+/*
+ * Copyright 2003 - 2023 The eFaps Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.efaps.maven.jetty;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.websocket.Endpoint;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+
+import com.arjuna.ats.internal.jta.transaction.arjunacore.TransactionManagerImple;
+import com.arjuna.ats.internal.jta.transaction.arjunacore.TransactionSynchronizationRegistryImple;
+
+import org.apache.wicket.protocol.ws.javax.WicketServerApplicationConfig;
+import org.eclipse.jetty.plus.webapp.EnvConfiguration;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.LocalConnector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.ContextHandlerCollection;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.webapp.WebAppContext;
+import org.eclipse.jetty.websocket.javax.server.internal.JavaxWebSocketServerContainer;
+import org.efaps.init.StartupDatabaseConnection;
+import org.efaps.maven.jetty.configuration.ServerDefinition;
+import org.efaps.ui.wicket.SocketInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The eFaps Jetty server defined by a server definition. Used by the
+ * {@link JettyRunMojo} and by integration tests that start the server within
+ * their own JVM and send the requests via the {@link LocalClient} without any
+ * network port, e.g.:
+ *
+ * <pre>
+ * final EFapsServer server = new EFapsServer(configFile);
+ * server.setDatabase(type, factory, connection);
+ * server.setObjectStoreType(ObjectStoreType.VOLATILE);
+ * server.setLocalOnly(true);
+ * server.start();
+ * final String response = server.getLocalClient().get("/servlet/...");
+ * server.stop();
+ * </pre>
+ *
+ * On start the object store of the transaction manager is configured and the
+ * eFaps database connection is initialized, if a database was set.
+ *
+ * @author The eFaps Team
+ */
+public class EFapsServer
+{
+    /**
+     * Logging instance used to give logging information of this class.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(EFapsServer.class);
+
+    /**
+     * Path to the XML file with the server definition.
+     */
+    private final String configFile;
+
+    /**
+     * JaasConfigFile.
+     */
+    private String jaasConfigFile;
+
+    /**
+     * Jetty env file path.
+     */
+    private String envFile;
+
+    /**
+     * Host (Adapter) of the network connector.
+     */
+    private String host = "127.0.0.1";
+
+    /**
+     * Port of the network connector.
+     */
+    private int port = 8888;
+
+    /**
+     * Form limit for the content size.
+     */
+    private int maxFormContentSize = 200000;
+
+    /**
+     * Form limit for the number of keys.
+     */
+    private int maxFormKeys = 1500;
+
+    /**
+     * Do not open the network connector, only a local connector (in memory,
+     * without network port) is used.
+     */
+    private boolean localOnly;
+
+    /**
+     * Database type (used to define database specific implementations).
+     */
+    private String type;
+
+    /**
+     * Class name of the SQL database factory.
+     */
+    private String factory;
+
+    /**
+     * Properties of the connection to the database, separated by a comma.
+     */
+    private String connection;
+
+    /**
+     * Configuration properties for eFaps.
+     */
+    private String configProps;
+
+    /**
+     * Name of the class for the transaction manager.
+     */
+    private String transactionManager = TransactionManagerImple.class.getName();
+
+    /**
+     * Name of the class for the transaction Synchronization Registry.
+     */
+    private String transactionSynchronizationRegistry = TransactionSynchronizationRegistryImple.class.getName();
+
+    /**
+     * Type of the object store used by the transaction manager.
+     */
+    private ObjectStoreType objectStoreType = ObjectStoreType.DEFAULT;
+
+    /**
+     * Directory of the object store.
+     */
+    private String objectStoreDir = "target";
+
+    /**
+     * Measure the total latency of the commits.
+     */
+    private boolean transactionStatistics;
+
+    /**
+     * The Jetty server, set on start.
+     */
+    private Server server;
+
+    /**
+     * Client for the local connector, set on start.
+     */
+    private LocalClient localClient;
+
+    /**
+     * @param _configFile path to the XML file with the server definition
+     */
+    public EFapsServer(final String _configFile)
+    {
+        this.configFile = _configFile;
+    }
+
+    /**
+     * Configures and starts the server.
+     *
+     * @throws Exception if the server could not be started
+     */
+    public void start()
+        throws Exception
+    {
+        initObjectStore();
+        if (this.type != null) {
+            StartupDatabaseConnection.startup(this.type,
+                            this.factory,
+                            this.connection,
+                            this.transactionManager,
+                            this.transactionSynchronizationRegistry,
+                            this.configProps);
+        }
+        this.server = new Server();
+        configureEnv();
+
+        LOG.info("Starting jetty Version {}", this.server.getClass().getPackage().getImplementationVersion());
+
+        this.server.setAttribute("org.eclipse.jetty.server.Request.maxFormContentSize", this.maxFormContentSize);
+        this.server.setAttribute("org.eclipse.jetty.server.Request.maxFormKeys", this.maxFormKeys);
+
+        final HttpConfiguration httpConfig = new HttpConfiguration();
+        httpConfig.setRequestHeaderSize(131072);
+        final LocalConnector local;
+        if (this.localOnly) {
+            local = new LocalConnector(this.server, new HttpConnectionFactory(httpConfig));
+            this.server.addConnector(local);
+            this.localClient = new LocalClient(local);
+        } else {
+            local = null;
+        }
+
+        final ContextHandlerCollection contexts = new ContextHandlerCollection();
+        this.server.setHandler(contexts);
+
+        if (this.jaasConfigFile != null) {
+            System.setProperty("java.security.auth.login.config", this.jaasConfigFile);
+        }
+        final ServerDefinition serverDef = ServerDefinition.read(this.configFile);
+        if (serverDef == null) {
+            throw new IllegalArgumentException(this.configFile + " is not readable");
+        }
+        if (serverDef.getWarmup() != null) {
+            serverDef.getWarmup().validate();
+        }
+        // needed as default, must be loaded ad least
+        new WebAppContext();
+
+        final ServletContextHandler context = new ServletContextHandler(contexts,
+                        LocalClient.CONTEXT_PATH,
+                        ServletContextHandler.SESSIONS);
+        serverDef.updateServer(context);
+
+        if (serverDef.isWebsocket()) {
+            final Set<Class<? extends Endpoint>> discoveredExtendedEndpoints = new HashSet<>();
+            // Initialize javax.websocket layer
+            final ServerContainer wscontainer = JavaxWebSocketServerContainer.getContainer(context.getServletContext());
+
+            final WicketServerApplicationConfig appConfig = new WicketServerApplicationConfig();
+            final Set<ServerEndpointConfig> seconfigs = appConfig.getEndpointConfigs(discoveredExtendedEndpoints);
+
+            if (seconfigs != null) {
+                for (final ServerEndpointConfig seconfig : seconfigs) {
+                    wscontainer.addEndpoint(seconfig);
+                }
+            }
+            new SocketInitializer().onStartup(null, context.getServletContext());
+        }
+        final LocalConnector warmupConnector;
+        if (serverDef.getWarmup() != null && local == null) {
+            warmupConnector = new LocalConnector(this.server, new HttpConnectionFactory(httpConfig));
+            this.server.addConnector(warmupConnector);
+        } else {
+            warmupConnector = local;
+        }
+        LOG.info("Starting Server");
+        try {
+            this.server.start();
+            if (serverDef.getWarmup() != null) {
+                serverDef.getWarmup().execute(local == null ? new LocalClient(warmupConnector) : this.localClient);
+                if (local == null) {
+                    warmupConnector.stop();
+                    this.server.removeConnector(warmupConnector);
+                }
+            }
+            // the network connector is added after the warm-up so that it does not accept traffic before
+            if (!this.localOnly) {
+                final ServerConnector http = new ServerConnector(this.server, new HttpConnectionFactory(httpConfig));
+                http.setPort(this.port);
+                http.setHost(this.host);
+                this.server.addConnector(http);
+                http.start();
+            }
+        } catch (final Exception e) {
+            try {
+                this.server.stop();
+            } catch (final Exception e1) {
+                e.addSuppressed(e1);
+            }
+            throw e;
+        }
+        LOG.info("Server Started");
+    }
+
+    /**
+     * Configures the object store and the statistics of the transaction
+     * manager. Must be called before the transaction manager is started.
+     *
+     * @throws IllegalStateException if the journal store is selected but
+     *             hornetq-core is not on the classpath
+     */
+    protected void initObjectStore()
+    {
+        LOG.info("Using object store {}", this.objectStoreType.getClassName());
+        System.setProperty("ObjectStoreEnvironmentBean.objectStoreDir", this.objectStoreDir);
+        System.setProperty("ObjectStoreEnvironmentBean.localOSRoot", "eFapsStore");
+        System.setProperty("ObjectStoreEnvironmentBean.objectStoreType", this.objectStoreType.getClassName());
+        if (this.objectStoreType == ObjectStoreType.JOURNAL) {
+            try {
+                Class.forName("org.hornetq.core.journal.Journal", false, getClass().getClassLoader());
+            } catch (final ClassNotFoundException e) {
+                throw new IllegalStateException("The journal object store needs 'org.hornetq:hornetq-core' "
+                                + "to be added to the dependencies", e);
+            }
+            // the journal adaptor always uses the same journal, therefore only the
+            // action store uses it and state and communication store keep the default
+            System.setProperty("HornetqJournalEnvironmentBean.storeDir",
+                            new File(this.objectStoreDir, "HornetqObjectStore").getPath());
+        } else {
+            System.setProperty("ObjectStoreEnvironmentBean.stateStore.objectStoreType",
+                            this.objectStoreType.getClassName());
+            System.setProperty("ObjectStoreEnvironmentBean.communicationStore.objectStoreType",
+                            this.objectStoreType.getClassName());
+        }
+        if (this.transactionStatistics) {
+            System.setProperty("CoordinatorEnvironmentBean.enableStatistics", "true");
+            final boolean timed = TransactionManagerImple.class.getName().equals(this.transactionManager);
+            if (timed) {
+                this.transactionManager = TimedTransactionManager.class.getName();
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> TimedTransactionManager.logStatistics(timed)));
+        }
+    }
+
+    /**
+     * Applies the Jetty env file if defined.
+     *
+     * @throws Exception if the Jetty env file could not be read
+     */
+    protected void configureEnv()
+        throws Exception
+    {
+        if (this.envFile != null) {
+            final File file = new File(this.envFile);
+            if (file.exists()) {
+                final EnvConfiguration envConfiguration = new EnvConfiguration();
+                envConfiguration.setJettyEnvXml(file.toURI().toURL());
+                final WebAppContext webcontext = new WebAppContext();
+                envConfiguration.configure(webcontext);
+            }
+        }
+    }
+
+    /**
+     * Waits until the server is stopped.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void join()
+        throws InterruptedException
+    {
+        this.server.join();
+    }
+
+    /**
+     * Stops the server.
+     *
+     * @throws Exception if the server could not be stopped
+     */
+    public void stop()
+        throws Exception
+    {
+        if (this.server != null) {
+            this.server.stop();
+        }
+    }
+
+    /**
+     * Getter method for the instance variable {@link #localClient}.
+     *
+     * @return client for the local connector
+     * @throws IllegalStateException if the server has no local connector or
+     *             was not started
+     */
+    public LocalClient getLocalClient()
+    {
+        if (this.localClient == null) {
+            throw new IllegalStateException("No local connector available.");
+        }
+        return this.localClient;
+    }
+
+    /**
+     * Setter method for instance variable {@link #jaasConfigFile}.
+     *
+     * @param _jaasConfigFile value for instance variable {@link #jaasConfigFile}
+     */
+    public void setJaasConfigFile(final String _jaasConfigFile)
+    {
+        this.jaasConfigFile = _jaasConfigFile;
+    }
+
+    /**
+     * Setter method for instance variable {@link #envFile}.
+     *
+     * @param _envFile value for instance variable {@link #envFile}
+     */
+    public void setEnvFile(final String _envFile)
+    {
+        this.envFile = _envFile;
+    }
+
+    /**
+     * Setter method for instance variable {@link #host}.
+     *
+     * @param _host value for instance variable {@link #host}
+     */
+    public void setHost(final String _host)
+    {
+        this.host = _host;
+    }
+
+    /**
+     * Setter method for instance variable {@link #port}.
+     *
+     * @param _port value for instance variable {@link #port}
+     */
+    public void setPort(final int _port)
+    {
+        this.port = _port;
+    }
+
+    /**
+     * Setter method for instance variable {@link #maxFormContentSize}.
+     *
+     * @param _maxFormContentSize value for instance variable
+     *            {@link #maxFormContentSize}
+     */
+    public void setMaxFormContentSize(final int _maxFormContentSize)
+    {
+        this.maxFormContentSize = _maxFormContentSize;
+    }
+
+    /**
+     * Setter method for instance variable {@link #maxFormKeys}.
+     *
+     * @param _maxFormKeys value for instance variable {@link #maxFormKeys}
+     */
+    public void setMaxFormKeys(final int _maxFormKeys)
+    {
+        this.maxFormKeys = _maxFormKeys;
+    }
+
+    /**
+     * Setter method for instance variable {@link #localOnly}.
+     *
+     * @param _localOnly value for instance variable {@link #localOnly}
+     */
+    public void setLocalOnly(final boolean _localOnly)
+    {
+        this.localOnly = _localOnly;
+    }
+
+    /**
+     * Sets the database connection initialized on start. If not set, the
+     * connection must be initialized before the server is started.
+     *
+     * @param _type         database type
+     * @param _factory      class name of the SQL database factory
+     * @param _connection   properties of the connection, separated by a comma
+     */
+    public void setDatabase(final String _type,
+                            final String _factory,
+                            final String _connection)
+    {
+        this.type = _type;
+        this.factory = _factory;
+        this.connection = _connection;
+    }
+
+    /**
+     * Setter method for instance variable {@link #configProps}.
+     *
+     * @param _configProps value for instance variable {@link #configProps}
+     */
+    public void setConfigProps(final String _configProps)
+    {
+        this.configProps = _configProps;
+    }
+
+    /**
+     * Setter method for instance variable {@link #transactionManager}.
+     *
+     * @param _transactionManager value for instance variable
+     *            {@link #transactionManager}
+     */
+    public void setTransactionManager(final String _transactionManager)
+    {
+        this.transactionManager = _transactionManager;
+    }
+
+    /**
+     * Setter method for instance variable
+     * {@link #transactionSynchronizationRegistry}.
+     *
+     * @param _transactionSynchronizationRegistry value for instance variable
+     *            {@link #transactionSynchronizationRegistry}
+     */
+    public void setTransactionSynchronizationRegistry(final String _transactionSynchronizationRegistry)
+    {
+        this.transactionSynchronizationRegistry = _transactionSynchronizationRegistry;
+    }
+
+    /**
+     * Setter method for instance variable {@link #objectStoreType}.
+     *
+     * @param _objectStoreType value for instance variable
+     *            {@link #objectStoreType}
+     */
+    public void setObjectStoreType(final ObjectStoreType _objectStoreType)
+    {
+        this.objectStoreType = _objectStoreType;
+    }
+
+    /**
+     * Setter method for instance variable {@link #objectStoreDir}.
+     *
+     * @param _objectStoreDir value for instance variable
+     *            {@link #objectStoreDir}
+     */
+    public void setObjectStoreDir(final String _objectStoreDir)
+    {
+        this.objectStoreDir = _objectStoreDir;
+    }
+
+    /**
+     * Setter method for instance variable {@link #transactionStatistics}.
+     *
+     * @param _transactionStatistics value for instance variable
+     *            {@link #transactionStatistics}
+     */
+    public void setTransactionStatistics(final boolean _transactionStatistics)
+    {
+        this.transactionStatistics = _transactionStatistics;
+    }
+}
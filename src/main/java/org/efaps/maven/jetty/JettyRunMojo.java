@@ -17,16 +17,7 @@
 
 package org.efaps.maven.jetty;
 
-import java.io.File;
-import java.io.IOException;
 import java.lang.reflect.Method;
-import java.net.MalformedURLException;
-import java.util.HashSet;
-import java.util.Set;
-
-import javax.websocket.Endpoint;
-import javax.websocket.server.ServerContainer;
-import javax.websocket.server.ServerEndpointConfig;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -35,20 +26,7 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
-import org.apache.wicket.protocol.ws.javax.WicketServerApplicationConfig;
-import org.eclipse.jetty.plus.webapp.EnvConfiguration;
-import org.eclipse.jetty.server.HttpConfiguration;
-import org.eclipse.jetty.server.HttpConnectionFactory;
-import org.eclipse.jetty.server.Server;
-import org.eclipse.jetty.server.ServerConnector;
-import org.eclipse.jetty.server.handler.ContextHandlerCollection;
-import org.eclipse.jetty.servlet.ServletContextHandler;
-import org.eclipse.jetty.webapp.WebAppContext;
-import org.eclipse.jetty.websocket.javax.server.internal.JavaxWebSocketServerContainer;
-import org.efaps.init.StartupDatabaseConnection;
 import org.efaps.init.StartupException;
-import org.efaps.maven.jetty.configuration.ServerDefinition;
-import org.efaps.ui.wicket.SocketInitializer;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 
@@ -86,7 +64,7 @@ public class JettyRunMojo
      * Defines Form Limits for the Server. Default value is <i>1500</i>.
      */
     @Parameter(defaultValue = "1500")
-    private String maxFormKeys;
+    private int maxFormKeys;
 
     /**
      * JaasConfigFile.
@@ -154,6 +132,32 @@ public class JettyRunMojo
     @Parameter(property = "org.efaps.transaction.synchronizationRegistry", defaultValue = "com.arjuna.ats.internal.jta.transaction.arjunacore.TransactionSynchronizationRegistryImple", required = true)
     private String transactionSynchronizationRegistry;
 
+    /**
+     * Type of the object store used by the transaction manager to write the
+     * transaction log. Possible values are <i>default</i> (file per record),
+     * <i>journal</i> (single append only journal) and <i>volatile</i> (in
+     * memory only, not durable). Default value is <i>default</i>.
+     */
+    @Parameter(property = "org.efaps.transaction.objectStoreType", defaultValue = "default")
+    private String objectStoreType;
+
+    /**
+     * Directory of the object store. Default value is <i>target</i>.
+     */
+    @Parameter(property = "org.efaps.transaction.objectStoreDir", defaultValue = "target")
+    private String objectStoreDir;
+
+    /**
+     * Measure the total latency of the commits of the transactions. With a
+     * single database resource the one phase commit is used and no
+     * transaction log is written, so only with two or more resources it
+     * approximates the costs of the object store. The statistics are logged
+     * on shutdown. Only applies if the default transaction manager is used.
+     * Default value is <i>false</i>.
+     */
+    @Parameter(property = "org.efaps.transaction.statistics", defaultValue = "false")
+    private boolean transactionStatistics;
+
     /**
      * The current Maven project.
      */
@@ -169,125 +173,69 @@ public class JettyRunMojo
     public void execute()
         throws MojoExecutionException
     {
-        init();
-
-        final Server server = new Server();
+        initLogback();
 
+        final EFapsServer server = new EFapsServer(configFile);
         try {
-            if (envFile != null) {
-                final File file = new File(envFile);
-                if (file.exists()) {
-                    final EnvConfiguration envConfiguration = new EnvConfiguration();
-                    envConfiguration.setJettyEnvXml(file.toURI().toURL());
-                    final WebAppContext webcontext = new WebAppContext();
-                    envConfiguration.configure(webcontext);
-                }
-            }
-        } catch (final MalformedURLException e) {
-            throw new MojoExecutionException("Could not read the Jetty env", e);
-        } catch (final IOException e) {
-            throw new MojoExecutionException("Could not read the Jetty env", e);
-        } catch (final Exception e) {
-            throw new MojoExecutionException("Could not read the Jetty env", e);
+            server.setObjectStoreType(ObjectStoreType.fromName(objectStoreType));
+        } catch (final IllegalArgumentException e) {
+            throw new MojoExecutionException("Invalid object store type", e);
         }
-
-        getLog().info("Starting jetty Version " + server.getClass().getPackage().getImplementationVersion());
-
-        server.setAttribute("org.eclipse.jetty.server.Request.maxFormContentSize", maxFormContentSize);
-        server.setAttribute("org.eclipse.jetty.server.Request.maxFormKeys", maxFormKeys);
-
-        final HttpConfiguration httpConfig = new HttpConfiguration();
-        httpConfig.setRequestHeaderSize(131072);
-        final ServerConnector http = new ServerConnector(server, new HttpConnectionFactory(httpConfig));
-        http.setPort(port);
-        http.setHost(host);
-
-        server.addConnector(http);
-
-        final ContextHandlerCollection contexts = new ContextHandlerCollection();
-        server.setHandler(contexts);
-
-        System.setProperty("java.security.auth.login.config",
-                        jaasConfigFile);
-        final ServerDefinition serverDef = ServerDefinition.read(configFile);
-        // needed as default, must be loaded ad least
-        new WebAppContext();
-
-        final ServletContextHandler context = new ServletContextHandler(contexts,
-                        "/eFaps",
-                        ServletContextHandler.SESSIONS);
-        serverDef.updateServer(context);
-
+        server.setObjectStoreDir(objectStoreDir);
+        server.setTransactionStatistics(transactionStatistics);
+        server.setDatabase(type, factory, connection);
+        server.setConfigProps(configProps);
+        server.setTransactionManager(transactionManager);
+        server.setTransactionSynchronizationRegistry(transactionSynchronizationRegistry);
+        server.setJaasConfigFile(jaasConfigFile);
+        server.setEnvFile(envFile);
+        server.setHost(host);
+        server.setPort(port);
+        server.setMaxFormContentSize(maxFormContentSize);
+        server.setMaxFormKeys(maxFormKeys);
         try {
-            if (serverDef.isWebsocket()) {
-                final Set<Class<? extends Endpoint>> discoveredExtendedEndpoints = new HashSet<>();
-                // Initialize javax.websocket layer
-                final ServerContainer wscontainer = JavaxWebSocketServerContainer.getContainer( context.getServletContext());
-
-                final WicketServerApplicationConfig appConfig = new WicketServerApplicationConfig();
-                final Set<ServerEndpointConfig> seconfigs = appConfig.getEndpointConfigs(discoveredExtendedEndpoints);
-
-                if (seconfigs != null) {
-                    for (final ServerEndpointConfig seconfig : seconfigs) {
-                        wscontainer.addEndpoint(seconfig);
-                    }
-                }
-                new SocketInitializer().onStartup(null, context.getServletContext());
-            }
-            getLog().info("Starting Server");
             server.start();
-            getLog().info("Server Started");
-            server.join();
+        } catch (final StartupException e) {
+            throw new MojoExecutionException("Initialize Database Connection failed", e);
         } catch (final Exception e) {
             throw new MojoExecutionException("Could not Start Jetty Server", e);
         }
+        try {
+            server.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Jetty Server interrupted", e);
+        }
     }
 
     /**
-     * @see #convertToMap used to convert the connection string to a property
-     *      map
-     * @see #type
-     * @see #factory
-     * @see #connection
+     * Configures LogBack with the {@link #logbackFile} if defined.
      */
-    protected void init()
+    protected void initLogback()
     {
-        // TODO correct that
-        System.setProperty("ObjectStoreEnvironmentBean.objectStoreDir", "target");
-        System.setProperty("ObjectStoreEnvironmentBean.localOSRoot", "eFapsStore");
         try {
-            try {
-                if (logbackFile != null) {
-                    final ILoggerFactory logContext = LoggerFactory.getILoggerFactory();
-                    if (logContext.getClass().getName().contains("ch.qos.logback.classic.LoggerContext")) {
-                        final Class<?> logContextInter = project.getClass().getClassLoader()
-                                        .loadClass("ch.qos.logback.core.Context");
+            if (logbackFile != null) {
+                final ILoggerFactory logContext = LoggerFactory.getILoggerFactory();
+                if (logContext.getClass().getName().contains("ch.qos.logback.classic.LoggerContext")) {
+                    final Class<?> logContextInter = project.getClass().getClassLoader()
+                                    .loadClass("ch.qos.logback.core.Context");
 
-                        final Class<?> configurator = project.getClass().getClassLoader()
-                                        .loadClass("ch.qos.logback.classic.joran.JoranConfigurator");
-                        final Object configInstance = configurator.getConstructor().newInstance();
+                    final Class<?> configurator = project.getClass().getClassLoader()
+                                    .loadClass("ch.qos.logback.classic.joran.JoranConfigurator");
+                    final Object configInstance = configurator.getConstructor().newInstance();
 
-                        final Method method = configurator.getMethod("setContext", new Class[] { logContextInter });
-                        method.invoke(configInstance, logContext);
+                    final Method method = configurator.getMethod("setContext", new Class[] { logContextInter });
+                    method.invoke(configInstance, logContext);
 
-                        final Method reset = logContext.getClass().getMethod("reset");
-                        reset.invoke(logContext);
+                    final Method reset = logContext.getClass().getMethod("reset");
+                    reset.invoke(logContext);
 
-                        final Method doConfigure = configurator.getMethod("doConfigure", new Class[] { String.class });
-                        doConfigure.invoke(configInstance, logbackFile);
-                    }
+                    final Method doConfigure = configurator.getMethod("doConfigure", new Class[] { String.class });
+                    doConfigure.invoke(configInstance, logbackFile);
                 }
-            } catch (final Exception e) {
-                getLog().error("Configuration of LogBack failed.", e);
             }
-            StartupDatabaseConnection.startup(type,
-                            factory,
-                            connection,
-                            transactionManager,
-                            transactionSynchronizationRegistry,
-                            configProps);
-        } catch (final StartupException e) {
-            getLog().error("Initialize Database Connection failed: " + e.toString());
+        } catch (final Exception e) {
+            getLog().error("Configuration of LogBack failed.", e);
         }
     }
 }
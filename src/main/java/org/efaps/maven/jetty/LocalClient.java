@@ -0,0 +1,113 @@
+/*
+ * Copyright 2003 - 2023 The eFaps Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.efaps.maven.jetty;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.server.LocalConnector;
+
+/**
+ * Client sending raw HTTP requests to the local connector of the eFaps Jetty
+ * server. The requests are handled in the same JVM without any socket, by the
+ * same filters and servlets as requests from the network connector.
+ *
+ * @author The eFaps Team
+ * @see EFapsServer#getLocalClient()
+ */
+public class LocalClient
+{
+    /**
+     * Path of the eFaps context.
+     */
+    public static final String CONTEXT_PATH = "/eFaps";
+
+    /**
+     * Timeout in seconds to wait for a response.
+     */
+    private static final long TIMEOUT = 60;
+
+    /**
+     * Local connector of the server.
+     */
+    private final LocalConnector connector;
+
+    /**
+     * @param _connector local connector of the server
+     */
+    LocalClient(final LocalConnector _connector)
+    {
+        this.connector = _connector;
+    }
+
+    /**
+     * Sends a raw HTTP request and returns the raw response.
+     *
+     * @param _request raw HTTP request including headers
+     * @return raw HTTP response, <code>null</code> if no response was
+     *         received within the timeout
+     * @throws Exception on error
+     */
+    public String getResponse(final String _request)
+        throws Exception
+    {
+        return this.connector.getResponse(_request, LocalClient.TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sends a GET request for a path within the eFaps context.
+     *
+     * @param _path path relative to the eFaps context, e.g. <i>/servlet/...</i>
+     * @return raw HTTP response, <code>null</code> if no response was
+     *         received within the timeout
+     * @throws Exception on error
+     */
+    public String get(final String _path)
+        throws Exception
+    {
+        return get(_path, Collections.emptyMap());
+    }
+
+    /**
+     * Sends a GET request with additional headers for a path within the eFaps
+     * context.
+     *
+     * @param _path     path relative to the eFaps context, e.g.
+     *                  <i>/servlet/...</i>
+     * @param _headers  additional headers, e.g. <i>Cookie</i> or
+     *                  <i>Authorization</i>
+     * @return raw HTTP response, <code>null</code> if no response was
+     *         received within the timeout
+     * @throws Exception on error
+     */
+    public String get(final String _path,
+                      final Map<String, String> _headers)
+        throws Exception
+    {
+        final StringBuilder request = new StringBuilder()
+                        .append("GET ").append(LocalClient.CONTEXT_PATH).append(_path).append(" HTTP/1.1\r\n")
+                        .append("Host: localhost\r\n")
+                        .append("Connection: close\r\n");
+        for (final Entry<String, String> header : _headers.entrySet()) {
+            request.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        return getResponse(request.append("\r\n").toString());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2003 - 2023 The eFaps Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.efaps.maven.jetty;
+
+/**
+ * Object store implementations of the Narayana transaction manager that can
+ * be selected for the jetty server.
+ *
+ * @author The eFaps Team
+ */
+public enum ObjectStoreType
+{
+    /** File per record store (the default of Narayana). */
+    DEFAULT("com.arjuna.ats.internal.arjuna.objectstore.ShadowNoFileLockStore"),
+
+    /** Journal based store, appending all records to a single log. */
+    JOURNAL("com.arjuna.ats.internal.arjuna.objectstore.hornetq.HornetqObjectStoreAdaptor"),
+
+    /** In memory store, not durable. Only for development and tests. */
+    VOLATILE("com.arjuna.ats.internal.arjuna.objectstore.VolatileStore");
+
+    /**
+     * Name of the class implementing the store.
+     */
+    private final String className;
+
+    /**
+     * @param _className name of the class implementing the store
+     */
+    ObjectStoreType(final String _className)
+    {
+        this.className = _className;
+    }
+
+    /**
+     * Getter method for the instance variable {@link #className}.
+     *
+     * @return value of instance variable {@link #className}
+     */
+    public String getClassName()
+    {
+        return this.className;
+    }
+
+    /**
+     * Evaluates the store type for the given name (case insensitive).
+     *
+     * @param _name name of the store type
+     * @return matching store type
+     * @throws IllegalArgumentException if no store type with the given name
+     *             exists
+     */
+    public static ObjectStoreType fromName(final String _name)
+    {
+        for (final ObjectStoreType type : values()) {
+            if (type.name().equalsIgnoreCase(_name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown object store type: " + _name);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2003 - 2023 The eFaps Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.efaps.maven.jetty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.transaction.HeuristicMixedException;
+import javax.transaction.HeuristicRollbackException;
+import javax.transaction.RollbackException;
+import javax.transaction.SystemException;
+
+import com.arjuna.ats.arjuna.coordinator.TxStats;
+import com.arjuna.ats.internal.jta.transaction.arjunacore.TransactionManagerImple;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transaction manager measuring the total latency of the commits. With the
+ * single database resource of eFaps the one phase commit is used and no
+ * transaction log is written, so the time is mostly the commit of the
+ * database. Only with two or more resources the prepare and the writing of the
+ * transaction log are included and the time approximates the costs of the
+ * object store.
+ *
+ * @author The eFaps Team
+ */
+public class TimedTransactionManager
+    extends TransactionManagerImple
+{
+    /**
+     * Logging instance used to give logging information of this class.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(TimedTransactionManager.class);
+
+    /**
+     * Number of executed commits.
+     */
+    private static final LongAdder COUNT = new LongAdder();
+
+    /**
+     * Sum of the time used for the commits in nanoseconds.
+     */
+    private static final LongAdder TOTAL = new LongAdder();
+
+    /**
+     * Maximum time used for one commit in nanoseconds.
+     */
+    private static final AtomicLong MAX = new AtomicLong();
+
+    @Override
+    public void commit()
+        throws RollbackException, HeuristicMixedException, HeuristicRollbackException, SecurityException,
+        IllegalStateException, SystemException
+    {
+        final long start = System.nanoTime();
+        try {
+            super.commit();
+        } finally {
+            final long duration = System.nanoTime() - start;
+            COUNT.increment();
+            TOTAL.add(duration);
+            MAX.accumulateAndGet(duration, Math::max);
+        }
+    }
+
+    /**
+     * Logs the statistics of the Narayana coordinator and optionally the
+     * collected commit timings.
+     *
+     * @param _commitTimings log the commit timings, only meaningful if this
+     *            class was used as transaction manager
+     */
+    public static void logStatistics(final boolean _commitTimings)
+    {
+        if (_commitTimings) {
+            final long count = COUNT.sum();
+            final long total = TOTAL.sum();
+            LOG.info("Transaction commits: {}, average: {} µs, max: {} µs",
+                            count,
+                            count > 0 ? TimeUnit.NANOSECONDS.toMicros(total / count) : 0,
+                            TimeUnit.NANOSECONDS.toMicros(MAX.get()));
+        }
+        final TxStats stats = TxStats.getInstance();
+        LOG.info("Transactions created: {}, committed: {}, aborted: {}, heuristics: {}",
+                        stats.getNumberOfTransactions(),
+                        stats.getNumberOfCommittedTransactions(),
+                        stats.getNumberOfAbortedTransactions(),
+                        stats.getNumberOfHeuristics());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2003 - 2023 The eFaps Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.efaps.maven.jetty.configuration;
+
+import javax.servlet.MultipartConfigElement;
+
+/**
+ * Multipart configuration of a servlet. Parts bigger than the file size
+ * threshold are written to the location on disk instead of being kept in
+ * memory.
+ *
+ * @author The eFaps Team
+ */
+public class MultipartDefinition
+{
+    /**
+     * Directory the parts are written to. If not set the parts are written to
+     * <i>java.io.tmpdir</i>, as the eFaps context has no temporary directory.
+     */
+    private String location = "";
+
+    /**
+     * Size in bytes after which a part is written to disk. Default value is
+     * <i>0</i>, meaning every part is written to disk.
+     */
+    private int filesizethreshold;
+
+    /**
+     * Maximum size in bytes of an uploaded file, <i>-1</i> for unlimited.
+     */
+    private long maxfilesize = -1L;
+
+    /**
+     * Maximum size in bytes of a multipart request, <i>-1</i> for unlimited.
+     */
+    private long maxrequestsize = -1L;
+
+    /**
+     * Setter method for instance variable {@link #location}.
+     *
+     * @param _location value for instance variable {@link #location}
+     */
+    public void setLocation(final String _location)
+    {
+        this.location = _location;
+    }
+
+    /**
+     * Setter method for instance variable {@link #filesizethreshold}.
+     *
+     * @param _fileSizeThreshold value for instance variable
+     *            {@link #filesizethreshold}
+     */
+    public void setFilesizethreshold(final int _fileSizeThreshold)
+    {
+        this.filesizethreshold = _fileSizeThreshold;
+    }
+
+    /**
+     * Setter method for instance variable {@link #maxfilesize}.
+     *
+     * @param _maxFileSize value for instance variable {@link #maxfilesize}
+     */
+    public void setMaxfilesize(final long _maxFileSize)
+    {
+        this.maxfilesize = _maxFileSize;
+    }
+
+    /**
+     * Setter method for instance variable {@link #maxrequestsize}.
+     *
+     * @param _maxRequestSize value for instance variable
+     *            {@link #maxrequestsize}
+     */
+    public void setMaxrequestsize(final long _maxRequestSize)
+    {
+        this.maxrequestsize = _maxRequestSize;
+    }
+
+    /**
+     * @return the multipart config element for a servlet registration
+     */
+    public MultipartConfigElement getConfigElement()
+    {
+        return new MultipartConfigElement(this.location, this.maxfilesize, this.maxrequestsize,
+                        this.filesizethreshold);
+    }
+}
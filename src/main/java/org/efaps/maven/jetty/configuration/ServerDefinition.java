@@ -57,6 +57,11 @@ public class ServerDefinition
      */
     private boolean websocket;
 
+    /**
+     * Warm-up executed before the server accepts traffic.
+     */
+    private WarmupDefinition warmup;
+
     /**
      * Initializes a new instanc of the server definition a a XML file.
      *
@@ -93,11 +98,25 @@ public class ServerDefinition
                     forPattern("server/servlet").createObject().ofType(ServletDefinition.class)
                         .then().setNext("addServlet");
                     forPattern("server/servlet").setProperties();
+                    forPattern("server/servlet/multipart").createObject().ofType(MultipartDefinition.class)
+                        .then().setNext("setMultipart");
+                    forPattern("server/servlet/multipart").setProperties();
                     forPattern("server/servlet/parameter")
                         .callMethod("addIniParam").withParamCount(2)
                         .withParamTypes(String.class, String.class)
                         .then().callParam().fromAttribute("key").ofIndex(0)
                         .then().callParam().ofIndex(1);
+
+                    forPattern("server/warmup").createObject().ofType(WarmupDefinition.class)
+                        .then().setNext("setWarmup");
+                    forPattern("server/warmup/request").createObject().ofType(WarmupRequestDefinition.class)
+                        .then().setNext("addRequest");
+                    forPattern("server/warmup/request").setProperties();
+                    forPattern("server/warmup/request/header")
+                        .callMethod("addHeader").withParamCount(2)
+                        .withParamTypes(String.class, String.class)
+                        .then().callParam().fromAttribute("name").ofIndex(0)
+                        .then().callParam().ofIndex(1);
                 }
             });
 
@@ -175,6 +194,27 @@ public class ServerDefinition
         this.websocket = _websocket;
     }
 
+    /**
+     * Getter method for the instance variable {@link #warmup}.
+     *
+     * @return value of instance variable {@link #warmup}
+     */
+    public WarmupDefinition getWarmup()
+    {
+        return this.warmup;
+    }
+
+    /**
+     * Setter method for instance variable {@link #warmup}.
+     *
+     * @param _warmup value for instance variable {@link #warmup}
+     */
+    @SetNext
+    public void setWarmup(final WarmupDefinition _warmup)
+    {
+        this.warmup = _warmup;
+    }
+
     /**
      * @param _wac context to be updated
      */
@@ -36,6 +36,11 @@ public class ServletDefinition
      */
     private String displayname;
 
+    /**
+     * Multipart configuration of the servlet.
+     */
+    private MultipartDefinition multipart;
+
     /**
      *
      * @param _handler servlet context handler
@@ -51,6 +56,9 @@ public class ServletDefinition
             servlet.setInitOrder(this.initorder);
         }
         _handler.addServlet(servlet, getPath());
+        if (this.multipart != null) {
+            servlet.getRegistration().setMultipartConfig(this.multipart.getConfigElement());
+        }
     }
 
     /**
@@ -74,4 +82,15 @@ public class ServletDefinition
     {
         this.displayname = _displayName;
     }
+
+    /**
+     * Setter method for instance variable {@link #multipart}.
+     *
+     * @param _multipart    multipart configuration to set
+     * @see #multipart
+     */
+    public void setMultipart(final MultipartDefinition _multipart)
+    {
+        this.multipart = _multipart;
+    }
 }
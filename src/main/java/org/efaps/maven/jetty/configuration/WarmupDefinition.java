@@ -0,0 +1,211 @@
+/*
+ * Copyright 2003 - 2023 The eFaps Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.efaps.maven.jetty.configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.digester3.annotations.rules.SetNext;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpTester;
+import org.efaps.maven.jetty.LocalClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warm-up of the server. The requests are executed via a local connector
+ * before the network connector accepts traffic, so that the JIT, the caches
+ * and the pages are initialized when the first user request arrives.
+ *
+ * @author The eFaps Team
+ */
+public class WarmupDefinition
+{
+    /**
+     * Logging instance used to give logging information of this class.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(WarmupDefinition.class);
+
+    /**
+     * List of all requests executed during the warm-up.
+     */
+    private final List<WarmupRequestDefinition> requests = new ArrayList<>();
+
+    /**
+     * Adds a new request to the list of requests.
+     *
+     * @param _request request to add to the list of requests
+     * @see #requests
+     */
+    @SetNext
+    public void addRequest(final WarmupRequestDefinition _request)
+    {
+        this.requests.add(_request);
+    }
+
+    /**
+     * Validates the requests of the warm-up.
+     *
+     * @throws IllegalArgumentException if a request has no path or the path
+     *             does not start with <i>/</i>
+     */
+    public void validate()
+    {
+        for (final WarmupRequestDefinition request : this.requests) {
+            if (request.getPath() == null || !request.getPath().startsWith("/")) {
+                throw new IllegalArgumentException("Invalid path for warm-up request: '" + request.getPath()
+                                + "'. The path must start with '/'.");
+            }
+        }
+    }
+
+    /**
+     * Executes the warm-up requests.
+     *
+     * @param _client   client for the local connector of the server
+     */
+    public void execute(final LocalClient _client)
+    {
+        LOG.info("Starting warm-up");
+        final long start = System.nanoTime();
+        for (final WarmupRequestDefinition request : this.requests) {
+            execute(_client, request);
+        }
+        LOG.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Executes one warm-up request and logs the latency of the first and the
+     * last iteration. An iteration are as many requests as executed in
+     * parallel. The first request is executed alone and the session cookie
+     * it receives is sent with all further requests, so that only one session
+     * is created. Requests without a 2xx or 3xx status count as failed and
+     * are not included in the latencies.
+     *
+     * @param _client   client for the local connector of the server
+     * @param _request  request to execute
+     */
+    protected void execute(final LocalClient _client,
+                           final WarmupRequestDefinition _request)
+    {
+        final int count = Math.max(1, _request.getCount());
+        final int concurrency = Math.max(1, Math.min(count, _request.getConcurrency()));
+        final long[] latencies = new long[count];
+        final Map<String, String> headers = new LinkedHashMap<>(_request.getHeaders());
+        int failed = 0;
+
+        final HttpTester.Response first = send(_client, _request.getPath(), headers, latencies, 0);
+        if (first == null) {
+            failed++;
+        } else {
+            final String setCookie = first.get(HttpHeader.SET_COOKIE);
+            if (setCookie != null && !headers.containsKey(HttpHeader.COOKIE.asString())) {
+                headers.put(HttpHeader.COOKIE.asString(), setCookie.split(";", 2)[0]);
+            }
+        }
+        final List<Future<HttpTester.Response>> futures = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            for (int i = 1; i < count; i++) {
+                final int idx = i;
+                futures.add(executor.submit(() -> send(_client, _request.getPath(), headers, latencies, idx)));
+            }
+            for (final Future<HttpTester.Response> future : futures) {
+                try {
+                    if (future.get() == null) {
+                        failed++;
+                    }
+                } catch (final Exception e) {
+                    LOG.debug("Warm-up request failed", e);
+                    failed++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        LOG.info("Warm-up '{}': {} requests, {} failed, first iteration {} ms, last iteration {} ms",
+                        _request.getPath(), count, failed,
+                        average(latencies, 0, concurrency),
+                        average(latencies, count - concurrency, count));
+    }
+
+    /**
+     * Sends one request and registers its latency.
+     *
+     * @param _client       client for the local connector of the server
+     * @param _path         path of the request
+     * @param _headers      headers of the request
+     * @param _latencies    latencies to register in, <i>-1</i> for failed
+     *                      requests
+     * @param _idx          index of the request
+     * @return the response, <code>null</code> if the request failed
+     */
+    private static HttpTester.Response send(final LocalClient _client,
+                                            final String _path,
+                                            final Map<String, String> _headers,
+                                            final long[] _latencies,
+                                            final int _idx)
+    {
+        HttpTester.Response ret = null;
+        final long begin = System.nanoTime();
+        try {
+            final String raw = _client.get(_path, _headers);
+            if (raw != null) {
+                final HttpTester.Response response = HttpTester.parseResponse(raw);
+                if (response.getStatus() >= 200 && response.getStatus() < 400) {
+                    ret = response;
+                } else {
+                    LOG.debug("Warm-up request '{}' answered with status {}", _path, response.getStatus());
+                }
+            }
+        } catch (final Exception e) {
+            LOG.debug("Warm-up request failed", e);
+        }
+        _latencies[_idx] = ret == null ? -1 : System.nanoTime() - begin;
+        return ret;
+    }
+
+    /**
+     * @param _latencies    latencies in nanoseconds, negative for failed
+     *                      requests
+     * @param _from         index to start (inclusive)
+     * @param _to           index to end (exclusive)
+     * @return average latency in milliseconds of the successful requests,
+     *         <code>-</code> if all requests failed
+     */
+    private static String average(final long[] _latencies,
+                                  final int _from,
+                                  final int _to)
+    {
+        long sum = 0;
+        int successful = 0;
+        for (int i = _from; i < _to; i++) {
+            if (_latencies[i] >= 0) {
+                sum += _latencies[i];
+                successful++;
+            }
+        }
+        return successful == 0 ? "-" : String.valueOf(TimeUnit.NANOSECONDS.toMillis(sum / successful));
+    }
+}
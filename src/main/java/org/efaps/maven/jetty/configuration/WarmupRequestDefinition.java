@@ -0,0 +1,134 @@
+/*
+ * Copyright 2003 - 2023 The eFaps Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.efaps.maven.jetty.configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request executed during the warm-up of the server.
+ *
+ * @author The eFaps Team
+ */
+public class WarmupRequestDefinition
+{
+    /**
+     * Path of the request relative to the context.
+     */
+    private String path;
+
+    /**
+     * Number of times the request is executed.
+     */
+    private int count = 1;
+
+    /**
+     * Number of requests executed in parallel.
+     */
+    private int concurrency = 1;
+
+    /**
+     * Headers sent with the request, e.g. for the authentication.
+     *
+     * @see #addHeader
+     */
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    /**
+     * Getter method for the instance variable {@link #path}.
+     *
+     * @return value of instance variable {@link #path}
+     */
+    public String getPath()
+    {
+        return this.path;
+    }
+
+    /**
+     * Setter method for instance variable {@link #path}.
+     *
+     * @param _path value for instance variable {@link #path}
+     */
+    public void setPath(final String _path)
+    {
+        this.path = _path;
+    }
+
+    /**
+     * Getter method for the instance variable {@link #count}.
+     *
+     * @return value of instance variable {@link #count}
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Setter method for instance variable {@link #count}.
+     *
+     * @param _count value for instance variable {@link #count}
+     */
+    public void setCount(final int _count)
+    {
+        this.count = _count;
+    }
+
+    /**
+     * Getter method for the instance variable {@link #concurrency}.
+     *
+     * @return value of instance variable {@link #concurrency}
+     */
+    public int getConcurrency()
+    {
+        return this.concurrency;
+    }
+
+    /**
+     * Setter method for instance variable {@link #concurrency}.
+     *
+     * @param _concurrency value for instance variable {@link #concurrency}
+     */
+    public void setConcurrency(final int _concurrency)
+    {
+        this.concurrency = _concurrency;
+    }
+
+    /**
+     * Adds a header sent with the request.
+     *
+     * @param _name     name of the header
+     * @param _value    value of the header
+     * @see #headers
+     */
+    public void addHeader(final String _name,
+                          final String _value)
+    {
+        this.headers.put(_name, _value);
+    }
+
+    /**
+     * Getter method for the instance variable {@link #headers}.
+     *
+     * @return value of instance variable {@link #headers}
+     */
+    public Map<String, String> getHeaders()
+    {
+        return this.headers;
+    }
+}